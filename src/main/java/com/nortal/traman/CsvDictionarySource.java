@@ -0,0 +1,212 @@
+package com.nortal.traman;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reads dictionary rows from a local CSV or TSV export of the dictionary worksheet. First row holds column names. File
+ * is streamed row by row, so only the current row is kept in memory.
+ * <p>
+ * CSV values may be quoted as in RFC 4180, a quote inside an unquoted value is taken as is. TSV has no quoting, so
+ * TSV values are taken as is and can not contain tabs or line breaks. Exports that quote such values, like Excel's
+ * tab delimited text, are not detected and are read wrongly, use CSV for them instead.
+ */
+public class CsvDictionarySource implements DictionarySource {
+
+  private static final Logger LOGGER = Logger.getLogger(CsvDictionarySource.class.getName());
+
+  private static final int INPUT_BUFFER_SIZE = 1 << 20;
+  private static final int CHAR_BUFFER_SIZE = 1 << 16;
+  private static final char QUOTE = '"';
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private File file;
+  private char separator;
+
+  /**
+   * Separator is chosen by file extension, tab for '.tsv' files and comma for others.
+   */
+  public CsvDictionarySource(File file) {
+    this(file, file.getName().toLowerCase().endsWith(".tsv") ? '\t' : ',');
+  }
+
+  public CsvDictionarySource(File file, char separator) {
+    this.file = file;
+    this.separator = separator;
+  }
+
+  @Override
+  public void read(RowHandler handler) {
+    LOGGER.info("Loading dictionary resources from file '" + file.getPath() + "'.");
+    int rowCount = 0;
+    Reader reader = null;
+    try {
+      reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(file), INPUT_BUFFER_SIZE), "UTF-8");
+      Parser parser = new Parser(file, reader, separator);
+
+      List<String> fields = new ArrayList<String>();
+      if (!parser.readRow(fields)) {
+        throw new RuntimeException("Dictionary file '" + file.getPath() + "' has no header row.");
+      }
+      final Map<String, Integer> columns = new HashMap<String, Integer>();
+      for (int i = 0; i < fields.size(); i++) {
+        columns.put(getColumnName(fields.get(i)), i);
+      }
+
+      final List<String> values = new ArrayList<String>();
+      Row row = new Row() {
+
+        @Override
+        public String getKey() {
+          return getValue(GdataTranslator.COLUMN__RESOURCE_KEY);
+        }
+
+        @Override
+        public String getValue(String column) {
+          Integer index = columns.get(column);
+          if (index == null || index >= values.size()) {
+            return null;
+          }
+          String value = values.get(index);
+          return value.length() == 0 ? null : value;
+        }
+      };
+
+      while (parser.readRow(values)) {
+        // ignore blank lines
+        if (values.size() == 1 && values.get(0).length() == 0) {
+          continue;
+        }
+        handler.handle(row);
+        rowCount++;
+      }
+    } catch (FileNotFoundException e) {
+      throw new RuntimeException("File reading is not possible '" + file.getName() + "'", e);
+    } catch (IOException e) {
+      throw new RuntimeException("File reading is not possible '" + file.getName() + "'", e);
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          throw new RuntimeException("Error closing file input stream", e);
+        }
+      }
+    }
+    LOGGER.info("Loaded " + rowCount + " rows from global dictionary.");
+  }
+
+  /**
+   * Column names are compared the way Google Spreadsheet list feed does: in lower case, without whitespace.
+   */
+  private static String getColumnName(String header) {
+    if (header.length() > 0 && header.charAt(0) == BYTE_ORDER_MARK) {
+      header = header.substring(1);
+    }
+    return header.replaceAll("\\s", "").toLowerCase();
+  }
+
+  /**
+   * Splits characters of a single read into rows and fields.
+   */
+  private static class Parser {
+
+    private static final int NONE = -2;
+
+    private final File file;
+    private final Reader reader;
+    private final char separator;
+    private final boolean quotes;
+    private final char[] buffer = new char[CHAR_BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int pushback = NONE;
+
+    Parser(File file, Reader reader, char separator) {
+      this.file = file;
+      this.reader = reader;
+      this.separator = separator;
+      this.quotes = separator == ',';
+    }
+
+    /**
+     * Reads fields of the next row.
+     *
+     * @return false if end of file was reached before the row
+     */
+    boolean readRow(List<String> fields) throws IOException {
+      fields.clear();
+      int c = next();
+      if (c == -1) {
+        return false;
+      }
+      boolean quoted = false;
+      StringBuilder field = new StringBuilder();
+      while (true) {
+        if (c == -1) {
+          if (quoted) {
+            throw new RuntimeException(
+                "Quoted value is not closed at the end of dictionary file '" + file.getPath() + "'");
+          }
+          fields.add(field.toString());
+          return true;
+        }
+        if (quoted) {
+          if (c == QUOTE) {
+            c = next();
+            if (c != QUOTE) {
+              quoted = false;
+              continue;
+            }
+          }
+          field.append((char) c);
+        } else if (quotes && c == QUOTE && field.length() == 0) {
+          // only a quote at the start of a field starts a quoted value, others are taken as is
+          quoted = true;
+        } else if (c == separator) {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else if (c == '\n' || c == '\r') {
+          if (c == '\r') {
+            c = next();
+            if (c != '\n') {
+              pushback = c;
+            }
+          }
+          fields.add(field.toString());
+          return true;
+        } else {
+          field.append((char) c);
+        }
+        c = next();
+      }
+    }
+
+    private int next() throws IOException {
+      if (pushback != NONE) {
+        int c = pushback;
+        pushback = NONE;
+        return c;
+      }
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position++];
+    }
+  }
+}
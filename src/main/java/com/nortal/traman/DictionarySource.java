@@ -0,0 +1,32 @@
+package com.nortal.traman;
+
+/**
+ * Source of global dictionary rows. Every row has 'resourcekey' and 'location' columns and a column for each
+ * language.
+ */
+public interface DictionarySource {
+
+  /**
+   * Passes dictionary rows to the handler one by one. Rows are not expected to stay valid after handling.
+   */
+  void read(RowHandler handler);
+
+  interface Row {
+
+    /**
+     * @return Resource key of the row
+     */
+    String getKey();
+
+    /**
+     * @param column Column name in lower case
+     * @return Column value, null if the column is missing or empty
+     */
+    String getValue(String column);
+  }
+
+  interface RowHandler {
+
+    void handle(Row row);
+  }
+}
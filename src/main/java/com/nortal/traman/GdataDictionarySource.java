@@ -0,0 +1,100 @@
+package com.nortal.traman;
+
+import com.google.gdata.client.spreadsheet.FeedURLFactory;
+import com.google.gdata.client.spreadsheet.SpreadsheetService;
+import com.google.gdata.data.BaseFeed;
+import com.google.gdata.data.spreadsheet.ListEntry;
+import com.google.gdata.data.spreadsheet.ListFeed;
+import com.google.gdata.data.spreadsheet.WorksheetEntry;
+import com.google.gdata.data.spreadsheet.WorksheetFeed;
+import com.google.gdata.util.ServiceException;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Reads dictionary rows from a worksheet of a public Google Spreadsheet.
+ */
+public class GdataDictionarySource implements DictionarySource {
+
+  private static final Logger LOGGER = Logger.getLogger(GdataDictionarySource.class.getName());
+
+  private String spreadsheetKey;
+  private String workSheetName;
+
+  public GdataDictionarySource(String spreadsheetKey, String workSheetName) {
+    this.spreadsheetKey = spreadsheetKey;
+    this.workSheetName = workSheetName;
+  }
+
+  @Override
+  public void read(RowHandler handler) {
+    URL url = createSpreadsheetUrl();
+    ListFeed listFeed = getListFeedFromUrl(url);
+    LOGGER.info("Loaded " + listFeed.getEntries().size() + " rows from global dictionary.");
+    for (final ListEntry entry : listFeed.getEntries()) {
+      handler.handle(new Row() {
+
+        @Override
+        public String getKey() {
+          return entry.getTitle().getPlainText();
+        }
+
+        @Override
+        public String getValue(String column) {
+          return entry.getCustomElements().getValue(column);
+        }
+      });
+    }
+  }
+
+  private URL createSpreadsheetUrl() {
+    LOGGER.info("Loading Google Spreadsheet dictionary resources from url.");
+    URL url;
+    try {
+      url = FeedURLFactory.getDefault().getWorksheetFeedUrl(spreadsheetKey, "public", "full");
+    } catch (MalformedURLException e) {
+      throw new RuntimeException("Reading is not possible from url", e);
+    }
+    return url;
+  }
+
+  private ListFeed getListFeedFromUrl(URL resourceUrl) {
+    SpreadsheetService service = new SpreadsheetService("Translator");
+    service.setConnectTimeout(10000);
+    WorksheetFeed feed = getFeed(service, resourceUrl, WorksheetFeed.class);
+    LOGGER.info("Loading resources from worksheet '" + workSheetName + "'.");
+    WorksheetEntry worksheetEntry = getWorkSheetEntry(feed, workSheetName);
+    if (worksheetEntry == null) {
+      throw new RuntimeException("Worksheet with name '" + workSheetName + "' does not exist.");
+    }
+
+    URL listFeedUrl = worksheetEntry.getListFeedUrl();
+    return getFeed(service, listFeedUrl, ListFeed.class);
+  }
+
+  private static <T extends BaseFeed<?, ?>> T getFeed(SpreadsheetService service, URL url, Class<T> feedType) {
+    T feed;
+    try {
+      feed = service.getFeed(url, feedType);
+    } catch (IOException e) {
+      throw new RuntimeException("ERROR: Can't get anything from " + feedType.getSimpleName(), e);
+    } catch (ServiceException e) {
+      throw new RuntimeException("ERROR: Can't get anything from " + feedType.getSimpleName(), e);
+    }
+    return feed;
+  }
+
+  private static WorksheetEntry getWorkSheetEntry(WorksheetFeed feed, String worksheetTitle) {
+    List<WorksheetEntry> worksheetList = feed.getEntries();
+    WorksheetEntry worksheetEntry = null;
+    for (WorksheetEntry worksheet : worksheetList) {
+      if (worksheet.getTitle().getPlainText().equals(worksheetTitle)) {
+        worksheetEntry = worksheet;
+      }
+    }
+    return worksheetEntry;
+  }
+}
@@ -1,13 +1,5 @@
 package com.nortal.traman;
 
-import com.google.gdata.client.spreadsheet.FeedURLFactory;
-import com.google.gdata.client.spreadsheet.SpreadsheetService;
-import com.google.gdata.data.BaseFeed;
-import com.google.gdata.data.spreadsheet.ListEntry;
-import com.google.gdata.data.spreadsheet.ListFeed;
-import com.google.gdata.data.spreadsheet.WorksheetEntry;
-import com.google.gdata.data.spreadsheet.WorksheetFeed;
-import com.google.gdata.util.ServiceException;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileFilter;
@@ -17,8 +9,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -36,29 +26,36 @@ import java.util.regex.Pattern;
  */
 public class GdataTranslator {
 
-  private static final String COLUMN__LOCATION = "location";
-  private static final String COLUMN__RESOURCE_KEY = "resourcekey";
+  static final String COLUMN__LOCATION = "location";
+  static final String COLUMN__RESOURCE_KEY = "resourcekey";
 
   private static final Logger LOGGER = Logger.getLogger(GdataTranslator.class.getName());
 
-  private String spreadsheetKey;
-  private String workSheetName;
+  private DictionarySource dictionarySource;
   protected Map<String, Properties> localResources = new HashMap<String, Properties>();
   protected Map<String, Properties> dictionaryResources = new HashMap<String, Properties>();
   private List<String> firstTimeWrite = new ArrayList<String>();
+  // dictionary bundles not present locally, written by writeResultToFiles
+  private List<String> missingLocalFiles = new ArrayList<String>();
+  private PlaceholderChecker placeholderChecker = new PlaceholderChecker();
+  private PlaceholderPolicy placeholderPolicy = PlaceholderPolicy.WARN;
   private String resourcesDirectory = "resources";
   private String[] langs;
 
   public GdataTranslator(String spreadsheetKey, String[] langs, String worksheetName) {
-    this.spreadsheetKey = spreadsheetKey;
+    this(new GdataDictionarySource(spreadsheetKey, worksheetName), langs);
+  }
+
+  public GdataTranslator(DictionarySource dictionarySource, String[] langs) {
+    this.dictionarySource = dictionarySource;
     this.langs = langs;
-    this.workSheetName = worksheetName;
   }
 
   public void translate() {
     this.readPropertyFiles();
     this.readDictionaryResources();
     this.merge();
+    this.checkPlaceholders();
     this.writeResultToFiles();
   }
 
@@ -162,108 +159,59 @@ public class GdataTranslator {
   }
 
   protected void readDictionaryResources() {
-    URL url = createSpreadsheetUrl();
-    ListFeed listFeed = getListFeedFromUrl(url);
-    LOGGER.info("Loaded " + listFeed.getEntries().size() + " rows from global dictionary.");
-    for (String lang : langs) {
-      loadResourcesFromListFeed(listFeed, lang);
-      LOGGER.info("Mapped dictionary resources for language '" + lang + "'");
-    }
-  }
-
-  private URL createSpreadsheetUrl() {
-    LOGGER.info("Loading Google Spreadsheet dictionary resources from url.");
-    URL url;
-    try {
-      url = FeedURLFactory.getDefault().getWorksheetFeedUrl(spreadsheetKey, "public", "full");
-    } catch (MalformedURLException e) {
-      throw new RuntimeException("Reading is not possible from url", e);
-    }
-    return url;
-  }
-
-  private ListFeed getListFeedFromUrl(URL resourceUrl) {
-    SpreadsheetService service = new SpreadsheetService("Translator");
-    service.setConnectTimeout(10000);
-    WorksheetFeed feed = getFeed(service, resourceUrl, WorksheetFeed.class);
-    LOGGER.info("Loading resources from worksheet '" + workSheetName + "'.");
-    WorksheetEntry worksheetEntry = getWorkSheetEntry(feed, workSheetName);
-    if (worksheetEntry == null) {
-      throw new RuntimeException("Worksheet with name '" + workSheetName + "' does not exist.");
-    }
-
-    URL listFeedUrl = worksheetEntry.getListFeedUrl();
-    return getFeed(service, listFeedUrl, ListFeed.class);
-  }
-
-  private static <T extends BaseFeed<?, ?>> T getFeed(SpreadsheetService service, URL url, Class<T> feedType) {
-    T feed;
-    try {
-      feed = service.getFeed(url, feedType);
-    } catch (IOException e) {
-      throw new RuntimeException("ERROR: Can't get anything from " + feedType.getSimpleName(), e);
-    } catch (ServiceException e) {
-      throw new RuntimeException("ERROR: Can't get anything from " + feedType.getSimpleName(), e);
-    }
-    return feed;
-  }
+    dictionarySource.read(new DictionarySource.RowHandler() {
 
-  private static WorksheetEntry getWorkSheetEntry(WorksheetFeed feed, String worksheetTitle) {
-    List<WorksheetEntry> worksheetList = feed.getEntries();
-    WorksheetEntry worksheetEntry = null;
-    for (WorksheetEntry worksheet : worksheetList) {
-      if (worksheet.getTitle().getPlainText().equals(worksheetTitle)) {
-        worksheetEntry = worksheet;
+      @Override
+      public void handle(DictionarySource.Row row) {
+        for (String lang : langs) {
+          loadResourcesFromRow(row, lang);
+        }
       }
-    }
-    return worksheetEntry;
+    });
+    LOGGER.info("Mapped dictionary resources for languages " + Arrays.toString(langs));
   }
 
   /**
-   * Method takes a row from Google Spreadsheet listFeed and parse into key-value and inserted into ResourceBundle. Key
-   * consists of Bundle name and location. Value is a Bundle.
+   * Method takes a dictionary row and parse into key-value and inserted into ResourceBundle. Key consists of Bundle
+   * name and location. Value is a Bundle.
    * 
-   * @param listFeed Taken from Google Spreadsheet
+   * @param row Dictionary row
    * @param lang Language prefix
    */
-  private void loadResourcesFromListFeed(ListFeed listFeed, String lang) {
-    // Map<String, Properties> addedResources = new HashMap<String, Properties>();
+  private void loadResourcesFromRow(DictionarySource.Row row, String lang) {
+    String locationBasedKey = getLocationKey(lang, row);
 
-    for (ListEntry row : listFeed.getEntries()) {
-      String locationBasedKey = getLocationKey(lang, row);
-
-      // read only properties which have key value
-      if (locationBasedKey == null || locationBasedKey.isEmpty()) {
-        continue;
-      }
+    // read only properties which have key value
+    if (locationBasedKey == null || locationBasedKey.isEmpty()) {
+      return;
+    }
 
-      Properties properties;
-      if (dictionaryResources.containsKey(locationBasedKey)) {
-        properties = dictionaryResources.get(locationBasedKey);
-      } else {
-        properties = new Properties();
-        dictionaryResources.put(locationBasedKey, properties);
-      }
-      addProperties(lang, row, properties);
+    Properties properties;
+    if (dictionaryResources.containsKey(locationBasedKey)) {
+      properties = dictionaryResources.get(locationBasedKey);
+    } else {
+      properties = new Properties();
+      dictionaryResources.put(locationBasedKey, properties);
     }
+    addProperties(lang, row, properties);
   }
 
   /**
-   * Method constructs key, which will later be used in a map with ResourceBundle, from Spreadsheet location column data
+   * Method constructs key, which will later be used in a map with ResourceBundle, from dictionary location column data
    * and language prefix. Language placeholder is removed and language prefix is inserted
    * 
    * @param lang Language for which key is constructed
-   * @param row Google Spreadsheet row from which data is taken
-   * @return Key constructed from Google Spreadsheet location column and language prefix
+   * @param row Dictionary row from which data is taken
+   * @return Key constructed from dictionary location column and language prefix
    */
-  private static String getLocationKey(String lang, ListEntry row) {
-    String resourceKey = row.getCustomElements().getValue(COLUMN__RESOURCE_KEY);
+  private static String getLocationKey(String lang, DictionarySource.Row row) {
+    String resourceKey = row.getValue(COLUMN__RESOURCE_KEY);
     // ignore "empty" lines
     if (resourceKey == null) {
       return null;
     }
 
-    String resourceLocation = row.getCustomElements().getValue(COLUMN__LOCATION);
+    String resourceLocation = row.getValue(COLUMN__LOCATION);
     if (resourceLocation == null) {
       LOGGER.severe("Resource key " + resourceKey + " has no location. Location has to be added.");
       return null;
@@ -284,12 +232,12 @@ public class GdataTranslator {
    * Method parses row data into key-value pair
    * 
    * @param lang Language prefix
-   * @param row Google Spreadsheet row, from which data is taken
+   * @param row Dictionary row, from which data is taken
    * @param properties Data structure to hold property, which will later be inserted into ResourceBundle
    */
-  private static void addProperties(String lang, ListEntry row, Properties properties) {
-    String value = row.getCustomElements().getValue(lang);
-    String key = row.getTitle().getPlainText();
+  private static void addProperties(String lang, DictionarySource.Row row, Properties properties) {
+    String value = row.getValue(lang);
+    String key = row.getKey();
     if (value != null && value.length() > 0) {
       properties.put(key, value);
     }
@@ -297,7 +245,7 @@ public class GdataTranslator {
 
   protected void merge() {
     // Files not present in local project
-    createMissingLocalFiles();
+    findMissingLocalFiles();
 
     for (String bundleKey : localResources.keySet()) {
       // Changed values
@@ -322,12 +270,11 @@ public class GdataTranslator {
     }
   }
 
-  private void createMissingLocalFiles() {
+  private void findMissingLocalFiles() {
+    missingLocalFiles.clear();
     for (String bundleKey : dictionaryResources.keySet()) {
       if (!localResources.containsKey(bundleKey)) {
-        writeResultToFile(dictionaryResources, bundleKey);
-        firstTimeWrite.add(getResultFilename(bundleKey));
-        LOGGER.info("Adding file: " + getResultFilename(bundleKey));
+        missingLocalFiles.add(bundleKey);
       }
     }
   }
@@ -346,7 +293,39 @@ public class GdataTranslator {
     }
   }
 
+  /**
+   * Checks placeholders of all keys in all languages, according to placeholder policy. Placeholder signatures are
+   * cached by value, so only new or changed values are parsed again.
+   */
+  protected void checkPlaceholders() {
+    if (placeholderPolicy == PlaceholderPolicy.OFF) {
+      return;
+    }
+    List<PlaceholderChecker.Mismatch> mismatches = placeholderChecker.check(getMergedResources(), null);
+    LOGGER.info("Checked placeholders of all keys.");
+    if (mismatches.isEmpty()) {
+      return;
+    }
+    for (PlaceholderChecker.Mismatch mismatch : mismatches) {
+      if (placeholderPolicy == PlaceholderPolicy.FAIL) {
+        LOGGER.severe(mismatch.toString());
+      } else {
+        LOGGER.warning(mismatch.toString());
+      }
+    }
+    if (placeholderPolicy == PlaceholderPolicy.FAIL) {
+      int count = mismatches.size();
+      throw new RuntimeException("Placeholders differ between languages in " + count + (count == 1 ? " key." : " keys."));
+    }
+  }
+
   protected void writeResultToFiles() {
+    for (String bundleKey : missingLocalFiles) {
+      writeResultToFile(dictionaryResources, bundleKey);
+      firstTimeWrite.add(getResultFilename(bundleKey));
+      LOGGER.info("Adding file: " + getResultFilename(bundleKey));
+    }
+
     for (String bundleKey : localResources.keySet()) {
       String filename = getResultFilename(bundleKey);
       if (!firstTimeWrite.contains(filename)) {
@@ -422,6 +401,45 @@ public class GdataTranslator {
     return (resourcesDirectory + File.separator + getResultFilename(filename)).replace('\\', '/');
   }
 
+  /**
+   * Creates query index over merged resources. Bundles which were only present in dictionary are included as well.
+   * 
+   * @return Index over local and dictionary resources, local values taking precedence
+   */
+  public TranslationIndex createIndex() {
+    return new TranslationIndex(getMergedResources());
+  }
+
+  /**
+   * Reads local and dictionary resources and merges them without writing any files.
+   * 
+   * @return Index over merged resources
+   */
+  public TranslationIndex indexMergedResources() {
+    this.readPropertyFiles();
+    this.readDictionaryResources();
+    this.merge();
+    return createIndex();
+  }
+
+  /**
+   * Reads local resources without contacting dictionary and creates query index over them.
+   */
+  public TranslationIndex indexLocalResources() {
+    this.readPropertyFiles();
+    return createIndex();
+  }
+
+  private Map<String, Properties> getMergedResources() {
+    Map<String, Properties> resources = new HashMap<String, Properties>(dictionaryResources);
+    resources.putAll(localResources);
+    return resources;
+  }
+
+  public void setPlaceholderPolicy(PlaceholderPolicy placeholderPolicy) {
+    this.placeholderPolicy = placeholderPolicy;
+  }
+
   public void setResourcesDirectory(String resourcesDirectory) {
     this.resourcesDirectory = resourcesDirectory;
   }
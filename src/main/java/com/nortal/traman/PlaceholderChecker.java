@@ -0,0 +1,235 @@
+package com.nortal.traman;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks that all languages of a bundle use the same MessageFormat ({0}, {1,number}) and printf (%s, %2$d)
+ * placeholders for a key. MessageFormat and positional printf placeholders may appear in any order, other printf
+ * placeholders have to keep their order. MessageFormat quoting is not taken into account.
+ * <p>
+ * Placeholder signatures are cached by value, so duplicate values are analysed once per checker instance.
+ */
+public class PlaceholderChecker {
+
+  private static final Pattern MESSAGE_FORMAT_PLACEHOLDER = Pattern.compile("\\{\\s*(\\d+)\\s*(?:,\\s*(\\w+))?[^{}]*\\}");
+  private static final Pattern PRINTF_PLACEHOLDER = Pattern.compile("%(?:(\\d+)\\$)?[-#+0,(<]*\\d*(?:\\.\\d+)?([a-zA-Z%])");
+
+  private final Map<String, String> signatures = new ConcurrentHashMap<String, String>();
+  private final int threads;
+
+  public PlaceholderChecker() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public PlaceholderChecker(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is required!");
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * @param resources Resources mapped by bundle path, as in {@link GdataTranslator}
+   * @param keys Keys to check, all keys are checked if null
+   * @return Mismatches sorted by bundle location and key
+   */
+  public List<Mismatch> check(Map<String, Properties> resources, Collection<String> keys) {
+    // language independent location -> language -> properties
+    final SortedMap<String, SortedMap<String, Properties>> bundles = new TreeMap<String, SortedMap<String, Properties>>();
+    for (Entry<String, Properties> resource : resources.entrySet()) {
+      String path = resource.getKey().replace('\\', '/');
+      String lang = TranslationIndex.getBundleLanguage(path);
+      if (lang == null) {
+        continue;
+      }
+      String location = TranslationIndex.getBundleLocation(path);
+      SortedMap<String, Properties> languages = bundles.get(location);
+      if (languages == null) {
+        languages = new TreeMap<String, Properties>();
+        bundles.put(location, languages);
+      }
+      languages.put(lang, resource.getValue());
+    }
+
+    final List<String[]> work = new ArrayList<String[]>();
+    for (Entry<String, SortedMap<String, Properties>> bundle : bundles.entrySet()) {
+      if (bundle.getValue().size() < 2) {
+        continue;
+      }
+      Set<String> bundleKeys = new TreeSet<String>();
+      for (Properties properties : bundle.getValue().values()) {
+        bundleKeys.addAll(properties.stringPropertyNames());
+      }
+      if (keys != null) {
+        bundleKeys.retainAll(keys);
+      }
+      for (String key : bundleKeys) {
+        work.add(new String[] {bundle.getKey(), key});
+      }
+    }
+    if (work.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    int chunkSize = (work.size() + threads - 1) / threads;
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, work.size()));
+    try {
+      List<Future<List<Mismatch>>> futures = new ArrayList<Future<List<Mismatch>>>();
+      for (int start = 0; start < work.size(); start += chunkSize) {
+        final List<String[]> chunk = work.subList(start, Math.min(start + chunkSize, work.size()));
+        futures.add(executor.submit(new Callable<List<Mismatch>>() {
+
+          @Override
+          public List<Mismatch> call() {
+            List<Mismatch> mismatches = new ArrayList<Mismatch>();
+            for (String[] item : chunk) {
+              Mismatch mismatch = checkKey(item[0], item[1], bundles.get(item[0]));
+              if (mismatch != null) {
+                mismatches.add(mismatch);
+              }
+            }
+            return mismatches;
+          }
+        }));
+      }
+
+      // chunks are in work order, so result stays sorted
+      List<Mismatch> result = new ArrayList<Mismatch>();
+      for (Future<List<Mismatch>> future : futures) {
+        result.addAll(future.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Placeholder check was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Placeholder check failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private Mismatch checkKey(String location, String key, Map<String, Properties> languages) {
+    SortedMap<String, String> keySignatures = new TreeMap<String, String>();
+    String first = null;
+    boolean mismatch = false;
+    for (Entry<String, Properties> language : languages.entrySet()) {
+      String value = language.getValue().getProperty(key);
+      // missing translations are not placeholder errors
+      if (value == null || value.length() == 0) {
+        continue;
+      }
+      String signature = getSignature(value);
+      keySignatures.put(language.getKey(), signature);
+      if (first == null) {
+        first = signature;
+      } else if (!first.equals(signature)) {
+        mismatch = true;
+      }
+    }
+    return mismatch ? new Mismatch(location, key, keySignatures) : null;
+  }
+
+  /**
+   * @return Placeholders of the value in comparable form, empty string if there are none
+   */
+  String getSignature(String value) {
+    String signature = signatures.get(value);
+    if (signature == null) {
+      signature = extractSignature(value);
+      signatures.put(value, signature);
+    }
+    return signature;
+  }
+
+  private static String extractSignature(String value) {
+    List<String> unordered = new ArrayList<String>();
+    List<String> ordered = new ArrayList<String>();
+
+    Matcher matcher = MESSAGE_FORMAT_PLACEHOLDER.matcher(value);
+    while (matcher.find()) {
+      String type = matcher.group(2);
+      unordered.add("{" + matcher.group(1) + (type == null ? "" : "," + type.toLowerCase()) + "}");
+    }
+
+    matcher = PRINTF_PLACEHOLDER.matcher(value);
+    while (matcher.find()) {
+      String conversion = matcher.group(2).toLowerCase();
+      if ("%".equals(conversion) || "n".equals(conversion)) {
+        continue;
+      }
+      if (matcher.group(1) != null) {
+        unordered.add("%" + matcher.group(1) + "$" + conversion);
+      } else {
+        ordered.add("%" + conversion);
+      }
+    }
+
+    Collections.sort(unordered);
+    StringBuilder signature = new StringBuilder();
+    for (String placeholder : unordered) {
+      signature.append(placeholder);
+    }
+    for (String placeholder : ordered) {
+      signature.append(placeholder);
+    }
+    return signature.toString();
+  }
+
+  /**
+   * Key of a bundle with differing placeholders between languages.
+   */
+  public static class Mismatch {
+
+    private final String location;
+    private final String key;
+    private final Map<String, String> signatures;
+
+    Mismatch(String location, String key, Map<String, String> signatures) {
+      this.location = location;
+      this.key = key;
+      this.signatures = Collections.unmodifiableMap(signatures);
+    }
+
+    /**
+     * @return Language independent bundle location
+     */
+    public String getLocation() {
+      return location;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * @return Placeholder signatures by language
+     */
+    public Map<String, String> getSignatures() {
+      return signatures;
+    }
+
+    @Override
+    public String toString() {
+      return "Placeholders of '" + key + "' differ in '" + location + "': " + signatures;
+    }
+  }
+}
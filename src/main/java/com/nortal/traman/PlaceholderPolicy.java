@@ -0,0 +1,13 @@
+package com.nortal.traman;
+
+/**
+ * Defines how placeholder mismatches between languages are handled after merge.
+ */
+public enum PlaceholderPolicy {
+  /** Placeholders are not checked */
+  OFF,
+  /** Mismatches are logged */
+  WARN,
+  /** Mismatches are logged and translation fails before any files are written */
+  FAIL
+}
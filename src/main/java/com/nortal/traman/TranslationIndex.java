@@ -0,0 +1,223 @@
+package com.nortal.traman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only query index over translated resources. Keys of all bundles and languages are kept in one sorted array, so
+ * prefix scans and key lookups are binary searches. Bundle locations are stored language independently, using the same
+ * [LANG] placeholder as the dictionary location column.
+ */
+public class TranslationIndex {
+
+  public static final String LANG_PLACEHOLDER = "[LANG]";
+
+  // language suffix of bundle file name: _xx or _xx_YY before .properties
+  private static final Pattern BUNDLE_LANGUAGE = Pattern.compile("_([a-z]{2}(?:_[A-Z]{2})?)\\.properties$");
+
+  private final String[] keys;
+  // entries of key i are entryOffsets[i] .. entryOffsets[i + 1] - 1
+  private final int[] entryOffsets;
+  private final int[] entryBundles;
+  private final String[] bundles;
+  // language -> entries having a non-empty value in that language
+  private final Map<String, BitSet> translated = new HashMap<String, BitSet>();
+  // entries of bundles without language, these can not miss a translation
+  private final BitSet languageless = new BitSet();
+
+  /**
+   * @param resources Resources mapped by bundle path, as in {@link GdataTranslator}
+   */
+  public TranslationIndex(Map<String, Properties> resources) {
+    SortedMap<String, SortedMap<String, Set<String>>> keyBundles = new TreeMap<String, SortedMap<String, Set<String>>>();
+    Set<String> bundleLocations = new TreeSet<String>();
+    Set<String> languagelessLocations = new HashSet<String>();
+
+    for (Entry<String, Properties> resource : resources.entrySet()) {
+      String path = resource.getKey().replace('\\', '/');
+      String location = getBundleLocation(path);
+      String lang = getBundleLanguage(path);
+      bundleLocations.add(location);
+      if (lang == null) {
+        languagelessLocations.add(location);
+      }
+
+      Properties properties = resource.getValue();
+      for (String key : properties.stringPropertyNames()) {
+        SortedMap<String, Set<String>> bundleLangs = keyBundles.get(key);
+        if (bundleLangs == null) {
+          bundleLangs = new TreeMap<String, Set<String>>();
+          keyBundles.put(key, bundleLangs);
+        }
+        Set<String> langs = bundleLangs.get(location);
+        if (langs == null) {
+          langs = new TreeSet<String>();
+          bundleLangs.put(location, langs);
+        }
+        String value = properties.getProperty(key);
+        if (lang != null && value != null && value.length() > 0) {
+          langs.add(lang);
+        }
+      }
+    }
+
+    bundles = bundleLocations.toArray(new String[bundleLocations.size()]);
+    keys = keyBundles.keySet().toArray(new String[keyBundles.size()]);
+    entryOffsets = new int[keys.length + 1];
+    int entryCount = 0;
+    for (int i = 0; i < keys.length; i++) {
+      entryOffsets[i] = entryCount;
+      entryCount += keyBundles.get(keys[i]).size();
+    }
+    entryOffsets[keys.length] = entryCount;
+
+    entryBundles = new int[entryCount];
+    int entry = 0;
+    for (String key : keys) {
+      for (Entry<String, Set<String>> bundleLangs : keyBundles.get(key).entrySet()) {
+        entryBundles[entry] = Arrays.binarySearch(bundles, bundleLangs.getKey());
+        if (languagelessLocations.contains(bundleLangs.getKey())) {
+          languageless.set(entry);
+        }
+        for (String lang : bundleLangs.getValue()) {
+          BitSet present = translated.get(lang);
+          if (present == null) {
+            present = new BitSet(entryCount);
+            translated.put(lang, present);
+          }
+          present.set(entry);
+        }
+        entry++;
+      }
+    }
+  }
+
+  /**
+   * Replaces language in the bundle file name with [LANG] placeholder. Paths without language are returned as is.
+   */
+  static String getBundleLocation(String path) {
+    Matcher matcher = BUNDLE_LANGUAGE.matcher(path);
+    if (!matcher.find()) {
+      return path;
+    }
+    return path.substring(0, matcher.start(1)) + LANG_PLACEHOLDER + path.substring(matcher.end(1));
+  }
+
+  /**
+   * @return Language of the bundle file name, like 'en' or 'en_US', null if file name has no language
+   */
+  static String getBundleLanguage(String path) {
+    Matcher matcher = BUNDLE_LANGUAGE.matcher(path);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+  /**
+   * @return Number of unique keys over all bundles
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  public boolean contains(String key) {
+    return Arrays.binarySearch(keys, key) >= 0;
+  }
+
+  /**
+   * @return Languages having at least one translated value
+   */
+  public Set<String> getLanguages() {
+    return Collections.unmodifiableSet(new TreeSet<String>(translated.keySet()));
+  }
+
+  /**
+   * @param prefix Key prefix, empty string matches all keys
+   * @return Sorted keys starting with given prefix
+   */
+  public List<String> findKeys(String prefix) {
+    int from = lowerBound(prefix);
+    return Collections.unmodifiableList(Arrays.asList(keys).subList(from, upperBound(prefix, from)));
+  }
+
+  /**
+   * @return Language independent locations of bundles containing given key
+   */
+  public List<String> getBundles(String key) {
+    int index = Arrays.binarySearch(keys, key);
+    if (index < 0) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<String>(entryOffsets[index + 1] - entryOffsets[index]);
+    for (int entry = entryOffsets[index]; entry < entryOffsets[index + 1]; entry++) {
+      result.add(bundles[entryBundles[entry]]);
+    }
+    return result;
+  }
+
+  /**
+   * Key is missing in a language when its bundle has no value (or an empty value) for the key in that language.
+   * Bundles without language in their file name are never reported.
+   *
+   * @param prefix Key prefix, empty string matches all keys
+   * @param lang Language prefix
+   * @return Sorted keys with language independent locations of bundles missing the translation
+   */
+  public Map<String, List<String>> findMissing(String prefix, String lang) {
+    BitSet present = translated.get(lang);
+    if (present == null) {
+      present = new BitSet();
+    }
+    Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+    int from = lowerBound(prefix);
+    int to = upperBound(prefix, from);
+    for (int index = from; index < to; index++) {
+      List<String> missing = null;
+      for (int entry = present.nextClearBit(entryOffsets[index]); entry < entryOffsets[index + 1]; entry =
+          present.nextClearBit(entry + 1)) {
+        if (languageless.get(entry)) {
+          continue;
+        }
+        if (missing == null) {
+          missing = new ArrayList<String>();
+          result.put(keys[index], missing);
+        }
+        missing.add(bundles[entryBundles[entry]]);
+      }
+    }
+    return result;
+  }
+
+  private int lowerBound(String prefix) {
+    int index = Arrays.binarySearch(keys, prefix);
+    return index < 0 ? -(index + 1) : index;
+  }
+
+  // keys with the same prefix are contiguous, so the first key not starting with it can be binary searched too
+  private int upperBound(String prefix, int from) {
+    int low = from;
+    int high = keys.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].startsWith(prefix)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
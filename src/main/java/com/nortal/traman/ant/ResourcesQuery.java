@@ -0,0 +1,114 @@
+package com.nortal.traman.ant;
+
+import com.nortal.traman.TranslationIndex;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map.Entry;
+import org.apache.tools.ant.BuildException;
+
+/**
+ * Queries merged resources. With 'key' set, bundles containing the key are listed. Otherwise keys starting with
+ * 'prefix' are listed with their bundles, or, with 'lang' set, only keys missing a translation in that language.
+ * Local resources are queried as they are. With 'translate' set, dictionary is merged into them first, but no resource
+ * files are written.
+ */
+public class ResourcesQuery extends ResourcesTranslateGoogle {
+
+    private String prefix = "";
+    private String key;
+    private String lang;
+    private String outputFile;
+    private boolean translate;
+
+    @Override
+    public void execute() throws BuildException {
+        gdataTranslator = createTranslator();
+        TranslationIndex index;
+        if (translate) {
+            index = gdataTranslator.indexMergedResources();
+        } else {
+            index = gdataTranslator.indexLocalResources();
+        }
+
+        if (outputFile == null) {
+            StringWriter writer = new StringWriter();
+            writeResult(index, writer);
+            log(writer.toString());
+            return;
+        }
+
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(new File(outputFile)), "UTF-8");
+            writeResult(index, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new BuildException("Cannot write to '" + outputFile + "'", e);
+        } finally {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                throw new BuildException("Cannot write to '" + outputFile + "'", e);
+            }
+        }
+    }
+
+    private void writeResult(TranslationIndex index, Writer writer) {
+        try {
+            if (key != null) {
+                for (String bundle : index.getBundles(key)) {
+                    writer.write(bundle + "\n");
+                }
+            } else if (lang != null) {
+                for (Entry<String, List<String>> missing : index.findMissing(prefix, lang).entrySet()) {
+                    writer.write(missing.getKey() + "=" + join(missing.getValue()) + "\n");
+                }
+            } else {
+                for (String foundKey : index.findKeys(prefix)) {
+                    writer.write(foundKey + "=" + join(index.getBundles(foundKey)) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new BuildException("Cannot write query result", e);
+        }
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(value);
+        }
+        return result.toString();
+    }
+
+    public void setPrefix(String prefix) {
+      this.prefix = prefix;
+    }
+
+    public void setKey(String key) {
+      this.key = key;
+    }
+
+    public void setLang(String lang) {
+      this.lang = lang;
+    }
+
+    public void setOutputFile(String outputFile) {
+      this.outputFile = outputFile;
+    }
+
+    public void setTranslate(boolean translate) {
+      this.translate = translate;
+    }
+
+}
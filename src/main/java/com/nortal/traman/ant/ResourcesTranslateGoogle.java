@@ -1,6 +1,9 @@
 package com.nortal.traman.ant;
 
+import com.nortal.traman.CsvDictionarySource;
 import com.nortal.traman.GdataTranslator;
+import com.nortal.traman.PlaceholderPolicy;
+import java.io.File;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 
@@ -15,6 +18,8 @@ public class ResourcesTranslateGoogle extends Task {
     private String spreadsheetKey;
     private String workSheetName;
     private String resourcesDirName;
+    private String dictionaryFile;
+    private PlaceholderPolicy placeholderPolicy;
 
     public void setSpreadsheetKey(String spreadsheetKey) {
         this.spreadsheetKey = spreadsheetKey;
@@ -22,11 +27,24 @@ public class ResourcesTranslateGoogle extends Task {
 
     @Override
     public void execute() throws BuildException {
-        gdataTranslator = new GdataTranslator(spreadsheetKey, langs, workSheetName);
+        gdataTranslator = createTranslator();
+        gdataTranslator.translate();
+    }
+
+    protected GdataTranslator createTranslator() {
+        GdataTranslator translator;
+        if(dictionaryFile != null) {
+          translator = new GdataTranslator(new CsvDictionarySource(new File(dictionaryFile)), langs);
+        } else {
+          translator = new GdataTranslator(spreadsheetKey, langs, workSheetName);
+        }
         if(resourcesDirName != null) {
-          gdataTranslator.setResourcesDirectory(resourcesDirName);
+          translator.setResourcesDirectory(resourcesDirName);
         }
-        gdataTranslator.translate();
+        if(placeholderPolicy != null) {
+          translator.setPlaceholderPolicy(placeholderPolicy);
+        }
+        return translator;
     }
 
     public void setWorkSheetName(String workSheetName) {
@@ -37,6 +55,24 @@ public class ResourcesTranslateGoogle extends Task {
       this.resourcesDirName = resourcesDirName;
     }
 
+    /**
+     * @param dictionaryFile Local CSV or TSV export of the dictionary, used instead of Google Spreadsheet
+     */
+    public void setDictionaryFile(String dictionaryFile) {
+      this.dictionaryFile = dictionaryFile;
+    }
+
+    /**
+     * @param placeholderPolicy One of 'off', 'warn' or 'fail'
+     */
+    public void setPlaceholderPolicy(String placeholderPolicy) {
+      try {
+        this.placeholderPolicy = PlaceholderPolicy.valueOf(placeholderPolicy.trim().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new BuildException("Unknown placeholder policy '" + placeholderPolicy + "'", e);
+      }
+    }
+
     public void setLangs(String langs) {
       this.langs = langs.split(",");
     }
@@ -0,0 +1,69 @@
+package com.nortal.traman;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import java.io.File;
+import java.util.Properties;
+import org.junit.Test;
+
+public class CsvDictionarySourceTest {
+
+  private static final String KEY1 = "test.123.one";
+  private static final String KEY2 = "test.123.two";
+  private static final String KEY3 = "test.123.three";
+  private static final String KEY_H = "test.hierarchical.directory";
+
+  private static final String RESOURCE__EN_PROPERTIES = "resources/test-resources_en.properties";
+  private static final String RESOURCE__ET_PROPERTIES = "resources/test-resources_et.properties";
+  private static final String RESOURCE___HIER_EN_PROPERTIES = "resources/hierarchical/test-resources_en.properties";
+  private static final String RESOURCE___HIER_ET_PROPERTIES = "resources/hierarchical/test-resources_et.properties";
+
+  private static final String[] LANGS = {"en", "et"};
+
+  @Test
+  public void readCsvDictionary() {
+    GdataTranslator translator =
+        new GdataTranslator(new CsvDictionarySource(new File("build/resources/test/dictionary.csv")), LANGS);
+    translator.readDictionaryResources();
+
+    Properties result = translator.dictionaryResources.get(RESOURCE__EN_PROPERTIES);
+    assertEquals(3, result.size());
+    assertEquals("Valid value", result.getProperty(KEY1));
+    assertEquals("Value, \"quoted\"\nand multiline", result.getProperty(KEY2));
+    assertEquals("Say \"hi\" there", result.getProperty(KEY3));
+
+    result = translator.dictionaryResources.get(RESOURCE__ET_PROPERTIES);
+    assertEquals(2, result.size());
+    assertEquals("Kehtiv väärtus", result.getProperty(KEY1));
+    assertEquals("5\" ekraan", result.getProperty(KEY3));
+
+    result = translator.dictionaryResources.get(RESOURCE___HIER_EN_PROPERTIES);
+    assertEquals(1, result.size());
+    assertEquals("Hierarchical value", result.getProperty(KEY_H));
+    assertEquals(0, translator.dictionaryResources.get(RESOURCE___HIER_ET_PROPERTIES).size());
+  }
+
+  @Test
+  public void readTsvDictionary() {
+    GdataTranslator translator =
+        new GdataTranslator(new CsvDictionarySource(new File("build/resources/test/dictionary.tsv")), LANGS);
+    translator.readDictionaryResources();
+
+    assertEquals("\"Quotes\" are kept", translator.dictionaryResources.get(RESOURCE__EN_PROPERTIES).getProperty(KEY1));
+    assertNull(translator.dictionaryResources.get(RESOURCE__ET_PROPERTIES).getProperty(KEY1));
+  }
+
+  @Test
+  public void readMalformedCsvDictionary() {
+    GdataTranslator translator =
+        new GdataTranslator(new CsvDictionarySource(new File("build/resources/test/dictionary-malformed.csv")), LANGS);
+    try {
+      translator.readDictionaryResources();
+      fail("Unclosed quoted value not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Quoted value is not closed at the end of dictionary file "
+          + "'build/resources/test/dictionary-malformed.csv'", e.getMessage());
+    }
+  }
+}
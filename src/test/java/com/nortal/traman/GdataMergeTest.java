@@ -1,6 +1,7 @@
 package com.nortal.traman;
 
 import static org.junit.Assert.assertEquals;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Properties;
@@ -127,6 +128,90 @@ public class GdataMergeTest {
     Assert.assertNull(result.getProperty(KEY6));
   }
   
+  @Test
+  public void testPlaceholderPolicy() {
+    Properties local = new Properties();
+    local.put(KEY1, "{0} " + VALUE_DUMMY);
+    local.put(KEY2, VALUE_DUMMY);
+    setGdataLocal(local, RESOURCE__EN_PROPERTIES);
+    Properties localEt = new Properties();
+    localEt.put(KEY1, VALUE_DUMMY);
+    setGdataLocal(localEt, RESOURCE__ET_PROPERTIES);
+
+    Properties global = new Properties();
+    global.put(KEY2, "{0} " + VALUE_VALID);
+    setGdataDictionary(global, RESOURCE__EN_PROPERTIES);
+    gdataResources.setPlaceholderPolicy(PlaceholderPolicy.FAIL);
+    gdataResources.merge();
+    try {
+      gdataResources.checkPlaceholders();
+      Assert.fail("Placeholder mismatch not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Placeholders differ between languages in 1 key.", e.getMessage());
+    }
+
+    // KEY1 is not changed by following merge, but is still reported
+    gdataResources.merge();
+    try {
+      gdataResources.checkPlaceholders();
+      Assert.fail("Placeholder mismatch not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Placeholders differ between languages in 1 key.", e.getMessage());
+    }
+
+    global = new Properties();
+    global.put(KEY2, VALUE_VALID);
+    setGdataDictionary(global, RESOURCE__ET_PROPERTIES);
+    gdataResources.merge();
+    try {
+      gdataResources.checkPlaceholders();
+      Assert.fail("Placeholder mismatch not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Placeholders differ between languages in 2 keys.", e.getMessage());
+    }
+
+    gdataResources.setPlaceholderPolicy(PlaceholderPolicy.WARN);
+    gdataResources.checkPlaceholders();
+  }
+
+  @Test
+  public void testPlaceholderPolicyWritesNoNewFiles() throws IOException {
+    String resourcesDirectory = "build/resources/test/placeholders";
+    File newFile = new File(resourcesDirectory + "/new-resources_en.properties");
+    new File(resourcesDirectory).mkdirs();
+    newFile.delete();
+    FileWriter fileWriter = new FileWriter("build/resources/placeholders.csv");
+    fileWriter.write("resourcekey,location,en,et\n");
+    fileWriter.write(KEY1 + "," + resourcesDirectory + "/new-resources_[LANG].properties,Value {0},Value\n");
+    fileWriter.close();
+
+    String[] langs = {"en", "et"};
+    GdataTranslator translator =
+        new GdataTranslator(new CsvDictionarySource(new File("build/resources/placeholders.csv")), langs);
+    translator.setResourcesDirectory(resourcesDirectory);
+    translator.setPlaceholderPolicy(PlaceholderPolicy.FAIL);
+    try {
+      translator.translate();
+      Assert.fail("Placeholder mismatch not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Placeholders differ between languages in 1 key.", e.getMessage());
+    }
+    Assert.assertFalse(newFile.exists());
+
+    // mismatch is reported again on following translation
+    try {
+      translator.translate();
+      Assert.fail("Placeholder mismatch not detected");
+    } catch (RuntimeException e) {
+      assertEquals("Placeholders differ between languages in 1 key.", e.getMessage());
+    }
+    Assert.assertFalse(newFile.exists());
+
+    translator.setPlaceholderPolicy(PlaceholderPolicy.WARN);
+    translator.translate();
+    Assert.assertTrue(newFile.exists());
+  }
+
   @Test
   public void gdataTranslate() throws IOException {
     Properties local = new Properties();
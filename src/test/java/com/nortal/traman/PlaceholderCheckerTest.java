@@ -0,0 +1,81 @@
+package com.nortal.traman;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlaceholderCheckerTest {
+
+  private static final String KEY1 = "test.123.one";
+  private static final String KEY2 = "test.123.two";
+  private static final String KEY3 = "test.123.three";
+  private static final String KEY4 = "test.123.four";
+
+  private static final String RESOURCE__EN_PROPERTIES = "resources/test-resources_en.properties";
+  private static final String RESOURCE__ET_PROPERTIES = "resources/test-resources_et.properties";
+  private static final String RESOURCE__LT_PROPERTIES = "resources/test-resources_lt.properties";
+
+  PlaceholderChecker checker;
+  Map<String, Properties> resources;
+
+  @Before
+  public void setUp() {
+    checker = new PlaceholderChecker(2);
+    resources = new HashMap<String, Properties>();
+
+    Properties en = new Properties();
+    en.put(KEY1, "Start date can't be earlier than {0}");
+    en.put(KEY2, "{0} of {1} rows, %s selected");
+    en.put(KEY3, "Total: {0,number}");
+    en.put(KEY4, "%s has %d items");
+    resources.put(RESOURCE__EN_PROPERTIES, en);
+
+    Properties et = new Properties();
+    et.put(KEY1, "Alguskuupäev ei saa olla väiksem kui {0}");
+    et.put(KEY2, "{1} reast {0}, %s valitud");
+    et.put(KEY3, "Kokku: {0}");
+    et.put(KEY4, "");
+    resources.put(RESOURCE__ET_PROPERTIES, et);
+
+    Properties lt = new Properties();
+    lt.put(KEY1, "Pradinė data negali būti ankstesnė nei {1}");
+    lt.put(KEY4, "%d elementų: %s");
+    resources.put(RESOURCE__LT_PROPERTIES, lt);
+  }
+
+  @Test
+  public void testSignature() {
+    assertEquals("", checker.getSignature("No placeholders, 100% sure"));
+    assertEquals("{0}{1}", checker.getSignature("{1} and {0}"));
+    assertEquals("{0,number}", checker.getSignature("{0, Number, #.##}"));
+    assertEquals("%1$s%2$d", checker.getSignature("%2$d and %1$s"));
+    assertEquals("%s%d", checker.getSignature("%s and %5d%n"));
+  }
+
+  @Test
+  public void testCheck() {
+    List<PlaceholderChecker.Mismatch> mismatches = checker.check(resources, null);
+    assertEquals(3, mismatches.size());
+    assertEquals(KEY4, mismatches.get(0).getKey());
+    assertEquals(KEY1, mismatches.get(1).getKey());
+    assertEquals(KEY3, mismatches.get(2).getKey());
+    assertEquals("resources/test-resources_[LANG].properties", mismatches.get(0).getLocation());
+    assertEquals("%s%d", mismatches.get(0).getSignatures().get("en"));
+    assertEquals("%d%s", mismatches.get(0).getSignatures().get("lt"));
+    assertEquals(2, mismatches.get(0).getSignatures().size());
+  }
+
+  @Test
+  public void testCheckGivenKeys() {
+    List<PlaceholderChecker.Mismatch> mismatches = checker.check(resources, Arrays.asList(KEY2, KEY3));
+    assertEquals(1, mismatches.size());
+    assertEquals(KEY3, mismatches.get(0).getKey());
+    assertTrue(checker.check(resources, Arrays.asList(KEY2)).isEmpty());
+  }
+}
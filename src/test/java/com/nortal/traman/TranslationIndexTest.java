@@ -0,0 +1,117 @@
+package com.nortal.traman;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TranslationIndexTest {
+
+  private static final String KEY1 = "test.123.one";
+  private static final String KEY2 = "test.123.two";
+  private static final String KEY3 = "test.124.three";
+  private static final String KEY_H = "test.hierarchical.directory";
+
+  private static final String RESOURCE__EN_PROPERTIES = "resources/test-resources_en.properties";
+  private static final String RESOURCE__LT_PROPERTIES = "resources/test-resources_lt.properties";
+  private static final String RESOURCE___HIER_EN_PROPERTIES = "resources/hierarchical/test-resources_en.properties";
+  private static final String BUNDLE = "resources/test-resources_[LANG].properties";
+  private static final String BUNDLE_H = "resources/hierarchical/test-resources_[LANG].properties";
+
+  TranslationIndex index;
+
+  @Before
+  public void setUp() {
+    Map<String, Properties> resources = new HashMap<String, Properties>();
+    Properties en = new Properties();
+    en.put(KEY1, "One");
+    en.put(KEY2, "Two");
+    en.put(KEY3, "Three");
+    resources.put(RESOURCE__EN_PROPERTIES, en);
+
+    Properties lt = new Properties();
+    lt.put(KEY1, "Vienas");
+    lt.put(KEY2, "");
+    resources.put(RESOURCE__LT_PROPERTIES, lt);
+
+    Properties hierarchical = new Properties();
+    hierarchical.put(KEY1, "One");
+    hierarchical.put(KEY_H, "Hierarchical value");
+    resources.put(RESOURCE___HIER_EN_PROPERTIES, hierarchical);
+
+    index = new TranslationIndex(resources);
+  }
+
+  @Test
+  public void testBundleLocation() {
+    assertEquals(BUNDLE, TranslationIndex.getBundleLocation(RESOURCE__LT_PROPERTIES));
+    assertEquals("resources/test.properties", TranslationIndex.getBundleLocation("resources/test.properties"));
+    assertEquals("res/error_messages.properties", TranslationIndex.getBundleLocation("res/error_messages.properties"));
+    assertEquals("res/error_messages_[LANG].properties",
+        TranslationIndex.getBundleLocation("res/error_messages_en_US.properties"));
+    assertEquals("en_US", TranslationIndex.getBundleLanguage("res/error_messages_en_US.properties"));
+    assertEquals("lt", TranslationIndex.getBundleLanguage(RESOURCE__LT_PROPERTIES));
+    Assert.assertNull(TranslationIndex.getBundleLanguage("res/error_messages.properties"));
+  }
+
+  @Test
+  public void testFindMissingLanguageless() {
+    Map<String, Properties> resources = new HashMap<String, Properties>();
+    Properties en = new Properties();
+    en.put(KEY1, "One");
+    resources.put(RESOURCE__EN_PROPERTIES, en);
+    Properties languageless = new Properties();
+    languageless.put(KEY1, "One");
+    languageless.put(KEY2, "Two");
+    resources.put("resources/test.properties", languageless);
+    resources.put("res/error_messages.properties", languageless);
+    index = new TranslationIndex(resources);
+
+    assertEquals(Arrays.asList("res/error_messages.properties", "resources/test-resources_[LANG].properties",
+        "resources/test.properties"), index.getBundles(KEY1));
+    assertEquals(Collections.singleton("en"), index.getLanguages());
+    Map<String, List<String>> missing = index.findMissing("", "lt");
+    assertEquals(1, missing.size());
+    assertEquals(Arrays.asList(BUNDLE), missing.get(KEY1));
+    assertTrue(index.findMissing("", "en").isEmpty());
+  }
+
+  @Test
+  public void testFindKeys() {
+    assertEquals(4, index.size());
+    assertEquals(Arrays.asList(KEY1, KEY2), index.findKeys("test.123."));
+    assertEquals(Arrays.asList(KEY1, KEY2, KEY3), index.findKeys("test.12"));
+    assertEquals(4, index.findKeys("").size());
+    assertTrue(index.findKeys("test.2").isEmpty());
+    assertTrue(index.contains(KEY_H));
+    assertFalse(index.contains("test"));
+  }
+
+  @Test
+  public void testGetBundles() {
+    assertEquals(Arrays.asList(BUNDLE_H, BUNDLE), index.getBundles(KEY1));
+    assertEquals(Arrays.asList(BUNDLE), index.getBundles(KEY3));
+    assertTrue(index.getBundles("test.unknown").isEmpty());
+  }
+
+  @Test
+  public void testFindMissing() {
+    Map<String, List<String>> missing = index.findMissing("test.", "lt");
+    assertEquals(Arrays.asList(KEY1, KEY2, KEY3, KEY_H), Arrays.asList(missing.keySet().toArray()));
+    assertEquals(Arrays.asList(BUNDLE_H), missing.get(KEY1));
+    assertEquals(Arrays.asList(BUNDLE), missing.get(KEY2));
+    assertEquals(Arrays.asList(BUNDLE), missing.get(KEY3));
+
+    assertTrue(index.findMissing("", "en").isEmpty());
+    assertEquals(4, index.findMissing("", "ru").size());
+    assertEquals(Arrays.asList(KEY3), Arrays.asList(index.findMissing("test.124.", "lt").keySet().toArray()));
+  }
+}
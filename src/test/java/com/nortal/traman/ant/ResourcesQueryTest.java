@@ -0,0 +1,95 @@
+package com.nortal.traman.ant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResourcesQueryTest {
+
+  private static final String OUTPUT_FILE = "build/resources/query-result.txt";
+  private static final String LOCAL_FILE = "build/resources/test/resources_en.properties";
+  private static final String BUNDLE = "build/resources/test/resources_[LANG].properties";
+  private static final String BUNDLE_MENU = "build/resources/test/menu/resources_[LANG].properties";
+  private static final String KEY_ADMIN = "topMenu.menu.label.admin";
+  private static final String KEY_REF = "REF.09.1.journal_entry_text";
+
+  ResourcesQuery query;
+
+  @Before
+  public void setUp() {
+    query = new ResourcesQuery();
+    query.setLangs("en,et,lt,ru");
+    query.setResourcesDirName("build/resources/test");
+    query.setOutputFile(OUTPUT_FILE);
+  }
+
+  @Test
+  public void queryPrefix() throws IOException {
+    query.setPrefix("topMenu.");
+    query.execute();
+    assertEquals(Arrays.asList(KEY_ADMIN + "=" + BUNDLE_MENU + "," + BUNDLE), readResult());
+  }
+
+  @Test
+  public void queryKey() throws IOException {
+    query.setKey(KEY_ADMIN);
+    query.execute();
+    assertEquals(Arrays.asList(BUNDLE_MENU, BUNDLE), readResult());
+  }
+
+  @Test
+  public void queryMissing() throws IOException {
+    query.setPrefix("topMenu.");
+    query.setLang("lt");
+    query.execute();
+    assertEquals(Arrays.asList(KEY_ADMIN + "=" + BUNDLE_MENU), readResult());
+
+    query.setPrefix("REF.");
+    query.execute();
+    assertEquals(Arrays.asList(KEY_REF + "=" + BUNDLE), readResult());
+
+    query.setLang("en");
+    query.execute();
+    assertEquals(Collections.emptyList(), readResult());
+  }
+
+  @Test
+  public void queryTranslated() throws IOException {
+    List<String> local = readLines(LOCAL_FILE);
+    query.setDictionaryFile("build/resources/test/dictionary.csv");
+    query.setTranslate(true);
+    query.setKey("test.123.one");
+    query.execute();
+    // other tests may leave local bundles with the same key
+    assertTrue(readResult().contains("resources/test-resources_[LANG].properties"));
+    // resources are not written
+    assertEquals(local, readLines(LOCAL_FILE));
+  }
+
+  private List<String> readResult() throws IOException {
+    return readLines(OUTPUT_FILE);
+  }
+
+  private List<String> readLines(String file) throws IOException {
+    List<String> lines = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    } finally {
+      reader.close();
+    }
+    return lines;
+  }
+}